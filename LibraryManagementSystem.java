@@ -1,5 +1,7 @@
 import java.util.*;
+import java.util.function.*;
 import java.io.*;
+import java.nio.file.*;
 
 class Book {
     private int id;
@@ -64,6 +66,8 @@ class Member {
     private String name;
     private String email;
     private List<Book> issuedBooks;
+    private List<Integer> unresolvedLoanIds;
+    private IntFunction<Book> loanResolver;
     private double fine;
 
     public Member(int id, String name, String email) {
@@ -87,9 +91,36 @@ class Member {
     }
 
     public List<Book> getIssuedBooks() {
+        resolveLoans();
         return issuedBooks;
     }
 
+    // Issued book IDs, without loading any books that are still unresolved
+    public List<Integer> getIssuedBookIds() {
+        List<Integer> ids = new ArrayList<>();
+        for (Book b : issuedBooks) {
+            ids.add(b.getId());
+        }
+        if (unresolvedLoanIds != null) ids.addAll(unresolvedLoanIds);
+        return ids;
+    }
+
+    // Lazy loading: keep loan IDs and look the books up only when a loan is needed
+    public void setUnresolvedLoans(List<Integer> bookIds, IntFunction<Book> resolver) {
+        unresolvedLoanIds = bookIds;
+        loanResolver = resolver;
+    }
+
+    private void resolveLoans() {
+        if (unresolvedLoanIds == null) return;
+        for (int bookId : unresolvedLoanIds) {
+            Book book = loanResolver.apply(bookId);
+            if (book != null) issuedBooks.add(book);
+        }
+        unresolvedLoanIds = null;
+        loanResolver = null;
+    }
+
     public double getFine() {
         return fine;
     }
@@ -105,71 +136,760 @@ class Member {
     }
 
     public void issueBook(Book book) {
+        resolveLoans();
         issuedBooks.add(book);
     }
 
     public void returnBook(Book book) {
-        issuedBooks.remove(book);
+        // Match by ID, since a lazily loaded book may be a different instance
+        resolveLoans();
+        issuedBooks.removeIf(b -> b.getId() == book.getId());
     }
 
     @Override
     public String toString() {
         return String.format("ID: %d | Name: %s | Email: %s | Fine: %.2f | Issued Books: %d",
-                id, name, email, fine, issuedBooks.size());
+                id, name, email, fine, getIssuedBookIds().size());
+    }
+}
+
+class AutocompleteIndex {
+    private static final int TOP_K = 10;
+
+    // Radix trie node: each edge holds a run of characters, and children are kept as a
+    // sorted char[] of first characters next to a parallel Node[]. Book and top-K arrays
+    // are only allocated once a node needs them.
+    private static class Node {
+        char[] label;
+        char[] keys;
+        Node[] children;
+        int[] bookIds;
+        int bookCount;
+        int[] top;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        int childCount() {
+            return keys == null ? 0 : keys.length;
+        }
+
+        Node child(char c) {
+            if (keys == null) return null;
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        void putChild(Node child) {
+            char c = child.label[0];
+            if (keys == null) {
+                keys = new char[] { c };
+                children = new Node[] { child };
+                return;
+            }
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                children[i] = child;
+                return;
+            }
+            i = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[keys.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            newKeys[i] = c;
+            newChildren[i] = child;
+            System.arraycopy(keys, i, newKeys, i + 1, keys.length - i);
+            System.arraycopy(children, i, newChildren, i + 1, keys.length - i);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        void removeChild(char c) {
+            int i = keys == null ? -1 : Arrays.binarySearch(keys, c);
+            if (i < 0) return;
+            if (keys.length == 1) {
+                keys = null;
+                children = null;
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[keys.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, keys.length - i - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        void addBook(int bookId) {
+            if (bookIds == null) {
+                bookIds = new int[1];
+            } else if (bookCount == bookIds.length) {
+                bookIds = Arrays.copyOf(bookIds, bookCount * 2);
+            }
+            bookIds[bookCount++] = bookId;
+        }
+
+        void removeBook(int bookId) {
+            for (int i = 0; i < bookCount; i++) {
+                if (bookIds[i] == bookId) {
+                    bookIds[i] = bookIds[--bookCount];
+                    if (bookCount == 0) bookIds = null;
+                    return;
+                }
+            }
+        }
+
+        boolean ranks(int bookId) {
+            return top != null && indexOf(top, bookId) >= 0;
+        }
+    }
+
+    private Node root;
+    // Only titles and authors are kept; callers look books up again by ID
+    private Map<Integer, String> titles;
+    private Map<Integer, String> authors;
+    private Map<String, String> authorNames;
+    private Map<Integer, Integer> borrowCounts;
+
+    public AutocompleteIndex() {
+        root = new Node(new char[0]);
+        titles = new HashMap<>();
+        authors = new HashMap<>();
+        authorNames = new HashMap<>();
+        borrowCounts = new HashMap<>();
+    }
+
+    // Bulk load: insert every term, then compute all top-K lists in one pass
+    public void build(Collection<Book> allBooks, Map<Integer, Integer> counts) {
+        root = new Node(new char[0]);
+        titles.clear();
+        authors.clear();
+        authorNames.clear();
+        borrowCounts = new HashMap<>(counts);
+        for (Book book : allBooks) {
+            remember(book);
+            for (String term : termsOf(book.getId())) {
+                List<Node> path = insert(term);
+                path.get(path.size() - 1).addBook(book.getId());
+            }
+        }
+        computeAll(root);
+    }
+
+    public void addBook(Book book) {
+        remember(book);
+        // A new book can only enter each ancestor's top-K, so a bounded insert suffices
+        for (String term : termsOf(book.getId())) {
+            List<Node> path = insert(term);
+            path.get(path.size() - 1).addBook(book.getId());
+            for (Node node : path) {
+                promote(node, book.getId());
+            }
+        }
+    }
+
+    public void removeBook(int bookId) {
+        if (!titles.containsKey(bookId)) return;
+        String[] terms = termsOf(bookId);
+        // Detach from every term, then recompute only the nodes that ranked the book,
+        // deepest first so each sees its children's final lists
+        List<List<Node>> paths = new ArrayList<>();
+        for (String term : terms) {
+            List<Node> path = pathTo(term);
+            if (path == null) continue;
+            path.get(path.size() - 1).removeBook(bookId);
+            paths.add(path);
+        }
+        int depth = 0;
+        for (List<Node> path : paths) depth = Math.max(depth, path.size());
+        Set<Node> done = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = depth - 1; i >= 0; i--) {
+            for (List<Node> path : paths) {
+                if (i >= path.size()) continue;
+                Node node = path.get(i);
+                if (node.ranks(bookId) && done.add(node)) computeTop(node);
+            }
+        }
+        // Then drop empty nodes and merge single-child chains back together
+        for (String term : terms) {
+            compact(root, term, 0);
+        }
+        titles.remove(bookId);
+        authors.remove(bookId);
+    }
+
+    // Title or author changed: drop the old terms and index the new ones
+    public void updateBook(Book book) {
+        removeBook(book.getId());
+        addBook(book);
+    }
+
+    public void recordBorrow(int bookId) {
+        borrowCounts.merge(bookId, 1, Integer::sum);
+        if (!titles.containsKey(bookId)) return;
+        // A borrow only raises the score, so each node just promotes the book
+        for (String term : termsOf(bookId)) {
+            List<Node> path = pathTo(term);
+            if (path == null) continue;
+            for (Node node : path) {
+                promote(node, bookId);
+            }
+        }
+    }
+
+    public int getBorrowCount(int bookId) {
+        return borrowCounts.getOrDefault(bookId, 0);
+    }
+
+    // IDs of the top ranked books whose normalized title or author starts with the prefix
+    public List<Integer> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        List<Integer> result = new ArrayList<>();
+        if (key.isEmpty()) return result;
+        Node node = root;
+        int pos = 0;
+        // The prefix may end part-way along an edge; that child's list still applies
+        while (pos < key.length()) {
+            node = node.child(key.charAt(pos));
+            if (node == null) return result;
+            int n = Math.min(node.label.length, key.length() - pos);
+            if (!matches(node.label, n, key, pos)) return result;
+            pos += n;
+        }
+        if (node.top == null) return result;
+        for (int id : node.top) {
+            if (result.size() >= limit) break;
+            result.add(id);
+        }
+        return result;
+    }
+
+    // Lowercase, trim and collapse runs of whitespace
+    public static String normalize(String input) {
+        if (input == null) return "";
+        return input.trim().toLowerCase().replaceAll("\\s+", " ");
+    }
+
+    // Repeated author names share one String
+    private void remember(Book book) {
+        titles.put(book.getId(), book.getTitle());
+        String author = authorNames.computeIfAbsent(book.getAuthor(), a -> a);
+        authors.put(book.getId(), author);
+    }
+
+    private String[] termsOf(int bookId) {
+        String title = normalize(titles.get(bookId));
+        String author = normalize(authors.get(bookId));
+        if (title.equals(author)) return new String[] { title };
+        return new String[] { title, author };
+    }
+
+    // Nodes from the root to the node ending exactly at the term, splitting an edge
+    // when the term ends or diverges part-way along it
+    private List<Node> insert(String term) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int pos = 0;
+        while (pos < term.length()) {
+            Node child = node.child(term.charAt(pos));
+            if (child == null) {
+                child = new Node(term.substring(pos).toCharArray());
+                node.putChild(child);
+                path.add(child);
+                return path;
+            }
+            int common = 1;
+            while (common < child.label.length && pos + common < term.length()
+                    && child.label[common] == term.charAt(pos + common)) {
+                common++;
+            }
+            if (common < child.label.length) {
+                // Split: the shared part becomes a new node holding the old child
+                Node middle = new Node(Arrays.copyOf(child.label, common));
+                child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                middle.putChild(child);
+                middle.top = child.top == null ? null : child.top.clone();
+                node.putChild(middle);
+                child = middle;
+            }
+            path.add(child);
+            node = child;
+            pos += common;
+        }
+        return path;
+    }
+
+    // Nodes from the root to the node ending exactly at the term, or null if absent
+    private List<Node> pathTo(String term) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int pos = 0;
+        while (pos < term.length()) {
+            node = node.child(term.charAt(pos));
+            if (node == null || node.label.length > term.length() - pos
+                    || !matches(node.label, node.label.length, term, pos)) {
+                return null;
+            }
+            path.add(node);
+            pos += node.label.length;
+        }
+        return path;
+    }
+
+    // Post-order along one term: remove empty nodes and fold a book-less node with a
+    // single child into that child
+    private void compact(Node node, String term, int pos) {
+        if (pos >= term.length()) return;
+        Node child = node.child(term.charAt(pos));
+        if (child == null || child.label.length > term.length() - pos
+                || !matches(child.label, child.label.length, term, pos)) {
+            return;
+        }
+        compact(child, term, pos + child.label.length);
+        if (child.bookCount > 0) return;
+        if (child.childCount() == 0) {
+            node.removeChild(child.label[0]);
+        } else if (child.childCount() == 1) {
+            Node only = child.children[0];
+            char[] label = new char[child.label.length + only.label.length];
+            System.arraycopy(child.label, 0, label, 0, child.label.length);
+            System.arraycopy(only.label, 0, label, child.label.length, only.label.length);
+            only.label = label;
+            node.putChild(only);
+        }
+    }
+
+    private static boolean matches(char[] label, int length, String key, int pos) {
+        for (int i = 0; i < length; i++) {
+            if (label[i] != key.charAt(pos + i)) return false;
+        }
+        return true;
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) return i;
+        }
+        return -1;
+    }
+
+    private void promote(Node node, int bookId) {
+        int[] top = node.top;
+        int pos = top == null ? -1 : indexOf(top, bookId);
+        if (pos < 0) {
+            if (top == null) {
+                top = new int[1];
+            } else if (top.length < TOP_K) {
+                top = Arrays.copyOf(top, top.length + 1);
+            } else if (compareRank(bookId, top[top.length - 1]) > 0) {
+                return;
+            }
+            pos = top.length - 1;
+            top[pos] = bookId;
+        }
+        while (pos > 0 && compareRank(top[pos], top[pos - 1]) < 0) {
+            int swap = top[pos];
+            top[pos] = top[pos - 1];
+            top[pos - 1] = swap;
+            pos--;
+        }
+        node.top = top;
+    }
+
+    private void computeAll(Node node) {
+        for (int i = 0; i < node.childCount(); i++) {
+            computeAll(node.children[i]);
+        }
+        computeTop(node);
+    }
+
+    // Bounded heap of size TOP_K over the node's own books and its children's lists
+    private void computeTop(Node node) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>(TOP_K + 1, (a, b) -> compareRank(b, a));
+        for (int i = 0; i < node.bookCount; i++) {
+            offer(heap, node.bookIds[i]);
+        }
+        for (int i = 0; i < node.childCount(); i++) {
+            int[] childTop = node.children[i].top;
+            if (childTop == null) continue;
+            for (int id : childTop) {
+                if (!heap.contains(id)) offer(heap, id);
+            }
+        }
+        if (heap.isEmpty()) {
+            node.top = null;
+            return;
+        }
+        List<Integer> ranked = new ArrayList<>(heap);
+        ranked.sort(this::compareRank);
+        int[] top = new int[ranked.size()];
+        for (int i = 0; i < top.length; i++) {
+            top[i] = ranked.get(i);
+        }
+        node.top = top;
+    }
+
+    // Heap head is the worst ranked entry
+    private void offer(PriorityQueue<Integer> heap, int id) {
+        if (heap.size() < TOP_K) {
+            heap.add(id);
+        } else if (compareRank(id, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(id);
+        }
+    }
+
+    // Most borrowed first, then by title, then by ID for a stable order
+    private int compareRank(int a, int b) {
+        int byCount = Integer.compare(getBorrowCount(b), getBorrowCount(a));
+        if (byCount != 0) return byCount;
+        int byTitle = titles.get(a).compareToIgnoreCase(titles.get(b));
+        if (byTitle != 0) return byTitle;
+        return Integer.compare(a, b);
+    }
+}
+
+class LazyRecordStore<T> {
+    private final String file;
+    private final Function<String, T> parser;
+    private final Function<T, String> formatter;
+    private final ToIntFunction<T> idOf;
+    private Map<Integer, Long> offsets = new HashMap<>();
+    private final Map<Integer, T> cache;
+    private final Map<Integer, T> dirty = new HashMap<>();
+    private RandomAccessFile reader;
+    private boolean changed;
+    private int maxId;
+
+    private interface LineHandler {
+        void accept(long offset, byte[] line, int length) throws IOException;
+    }
+
+    public LazyRecordStore(String file, int cacheSize, Function<String, T> parser,
+                           Function<T, String> formatter, ToIntFunction<T> idOf) {
+        this.file = file;
+        this.parser = parser;
+        this.formatter = formatter;
+        this.idOf = idOf;
+        // Access-ordered map evicts the least recently used clean record
+        this.cache = new LinkedHashMap<Integer, T>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, T> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    // Record the byte offset of every line by ID, without parsing the rest of the line
+    public void buildIndex() {
+        offsets.clear();
+        cache.clear();
+        dirty.clear();
+        maxId = 0;
+        try {
+            forEachLine((offset, line, length) -> {
+                Integer id = parseId(line, length);
+                if (id != null) {
+                    offsets.put(id, offset);
+                    if (id > maxId) maxId = id;
+                }
+            });
+        } catch (FileNotFoundException e) {
+            // File not found, start fresh
+        } catch (IOException e) {
+            System.err.println("Error indexing " + file + ": " + e.getMessage());
+        }
+    }
+
+    public int getMaxId() {
+        return maxId;
+    }
+
+    public T get(int id) {
+        T record = dirty.get(id);
+        if (record != null) return record;
+        record = cache.get(id);
+        if (record != null) return record;
+        Long offset = offsets.get(id);
+        if (offset == null || offset < 0) return null;
+        try {
+            record = parser.apply(readLineAt(offset));
+        } catch (IOException e) {
+            System.err.println("Error reading " + file + ": " + e.getMessage());
+            return null;
+        }
+        if (record == null) return null;
+        // A stale offset must not put another record under this ID
+        if (idOf.applyAsInt(record) != id) {
+            System.err.println("Error reading " + file + ": expected record " + id + " at offset " + offset);
+            return null;
+        }
+        cache.put(id, record);
+        return record;
+    }
+
+    // New or modified record; kept in memory until the next save
+    public void put(T record) {
+        int id = idOf.applyAsInt(record);
+        dirty.put(id, record);
+        cache.put(id, record);
+        offsets.putIfAbsent(id, -1L);
+        if (id > maxId) maxId = id;
+        changed = true;
+    }
+
+    // Whether the ID is indexed, without reading the record
+    public boolean contains(int id) {
+        return offsets.containsKey(id);
+    }
+
+    public boolean remove(int id) {
+        if (offsets.remove(id) == null) return false;
+        dirty.remove(id);
+        cache.remove(id);
+        changed = true;
+        return true;
+    }
+
+    // Full scan in file order; records not already in memory are parsed but not cached
+    public List<T> getAll() {
+        List<T> result = new ArrayList<>();
+        Map<Integer, T> pending = new LinkedHashMap<>(dirty);
+        try {
+            forEachLine((offset, line, length) -> {
+                Integer id = parseId(line, length);
+                if (id == null || !offsets.containsKey(id)) return;
+                T record = pending.remove(id);
+                if (record == null) record = cache.get(id);
+                if (record == null) record = parser.apply(decode(line, length));
+                if (record != null) result.add(record);
+            });
+        } catch (FileNotFoundException e) {
+            // Nothing saved yet
+        } catch (IOException e) {
+            System.err.println("Error reading " + file + ": " + e.getMessage());
+        }
+        result.addAll(pending.values());
+        return result;
+    }
+
+    // Rewrite the file by streaming the old one: dirty records are re-serialized,
+    // deleted ones dropped and everything else copied as raw bytes. The new offsets
+    // only replace the index once the new file is in place; on failure the old file,
+    // index and dirty records are all kept.
+    public void save() throws IOException {
+        if (!changed) return;
+        File target = new File(file);
+        File temp = new File(file + ".tmp");
+        Map<Integer, T> pending = new HashMap<>(dirty);
+        Map<Integer, Long> newOffsets = new HashMap<>(offsets.size() * 4 / 3 + 1);
+        byte[] newline = System.lineSeparator().getBytes();
+        try {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp), 1 << 16)) {
+                long[] position = {0};
+                if (target.exists()) {
+                    forEachLine((offset, line, length) -> {
+                        Integer id = parseId(line, length);
+                        if (id == null || !offsets.containsKey(id)) return;
+                        T record = pending.remove(id);
+                        newOffsets.put(id, position[0]);
+                        if (record != null) {
+                            position[0] += writeRecord(out, record, newline);
+                        } else {
+                            out.write(line, 0, length);
+                            out.write(newline);
+                            position[0] += length + newline.length;
+                        }
+                    });
+                }
+                for (T record : pending.values()) {
+                    newOffsets.put(idOf.applyAsInt(record), position[0]);
+                    position[0] += writeRecord(out, record, newline);
+                }
+            }
+            // The open reader points at the old file; reopen it on the next lookup
+            closeReader();
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            temp.delete();
+            throw e;
+        }
+        offsets = newOffsets;
+        dirty.clear();
+        changed = false;
+    }
+
+    private long writeRecord(OutputStream out, T record, byte[] newline) throws IOException {
+        byte[] bytes = formatter.apply(record).getBytes();
+        out.write(bytes);
+        out.write(newline);
+        return bytes.length + newline.length;
+    }
+
+    private String readLineAt(long offset) throws IOException {
+        if (reader == null) reader = new RandomAccessFile(file, "r");
+        reader.seek(offset);
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        byte[] chunk = new byte[256];
+        int n;
+        while ((n = reader.read(chunk)) > 0) {
+            int end = 0;
+            while (end < n && chunk[end] != '\n') end++;
+            line.write(chunk, 0, end);
+            if (end < n) break;
+        }
+        byte[] bytes = line.toByteArray();
+        return decode(bytes, bytes.length);
+    }
+
+    private void closeReader() {
+        if (reader == null) return;
+        try {
+            reader.close();
+        } catch (IOException e) {
+            System.err.println("Error closing " + file + ": " + e.getMessage());
+        }
+        reader = null;
+    }
+
+    private void forEachLine(LineHandler handler) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] buffer = new byte[1 << 16];
+            byte[] line = new byte[256];
+            int length = 0;
+            long offset = 0;
+            long lineStart = 0;
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                for (int i = 0; i < n; i++) {
+                    byte b = buffer[i];
+                    offset++;
+                    if (b == '\n') {
+                        handler.accept(lineStart, line, length);
+                        length = 0;
+                        lineStart = offset;
+                    } else {
+                        if (length == line.length) line = Arrays.copyOf(line, length * 2);
+                        line[length++] = b;
+                    }
+                }
+            }
+            if (length > 0) handler.accept(lineStart, line, length);
+        }
+    }
+
+    private static String decode(byte[] line, int length) {
+        if (length > 0 && line[length - 1] == '\r') length--;
+        return new String(line, 0, length);
+    }
+
+    // Leading numeric ID up to the first '|', or null for headers and malformed lines
+    private static Integer parseId(byte[] line, int length) {
+        int id = 0;
+        int digits = 0;
+        for (int i = 0; i < length; i++) {
+            byte c = line[i];
+            if (c == '|') return digits > 0 ? id : null;
+            if (c < '0' || c > '9' || digits == 9) return null;
+            id = id * 10 + (c - '0');
+            digits++;
+        }
+        return null;
     }
 }
 
 class Library {
     private Map<Integer, Book> books;
     private Map<Integer, Member> members;
+    private AutocompleteIndex autocompleteIndex;
+    private boolean batchMode;
+    private boolean dirty;
+    private BufferedWriter transactionLog;
+    private IOException transactionLogError;
+    private boolean lazy;
+    private LazyRecordStore<Book> bookStore;
+    private LazyRecordStore<Member> memberStore;
+    private final java.text.SimpleDateFormat timestampFormat = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
     private int nextBookId;
     private int nextMemberId;
     private static final String BOOKS_FILE = "books.txt";
     private static final String MEMBERS_FILE = "members.txt";
+    private static final int LAZY_CACHE_SIZE = 1024;
 
     public Library() {
+        this(false);
+    }
+
+    // In lazy mode only an ID -> file offset index is built up front; records are
+    // parsed on first access and kept in a bounded cache
+    public Library(boolean lazy) {
+        this.lazy = lazy;
         books = new HashMap<>();
         members = new HashMap<>();
         nextBookId = 1;
         nextMemberId = 1;
-        loadData();
+        if (lazy) {
+            bookStore = new LazyRecordStore<>(BOOKS_FILE, LAZY_CACHE_SIZE, this::parseBook, this::formatBook, Book::getId);
+            memberStore = new LazyRecordStore<>(MEMBERS_FILE, LAZY_CACHE_SIZE, this::parseMember, this::formatMember, Member::getId);
+            bookStore.buildIndex();
+            memberStore.buildIndex();
+            nextBookId = bookStore.getMaxId() + 1;
+            nextMemberId = memberStore.getMaxId() + 1;
+        } else {
+            loadData();
+            autocompleteIndex = new AutocompleteIndex();
+            autocompleteIndex.build(books.values(), loadBorrowCounts());
+        }
     }
 
     // Book management
     public Book addBook(String title, String author, String category) {
         Book book = new Book(nextBookId++, title, author, category);
-        books.put(book.getId(), book);
+        if (lazy) bookStore.put(book);
+        else books.put(book.getId(), book);
+        if (autocompleteIndex != null) autocompleteIndex.addBook(book);
         saveData();
         return book;
     }
 
     public boolean updateBook(int id, String title, String author, String category) {
-        Book book = books.get(id);
+        Book book = findBook(id);
         if (book == null) return false;
         book.setTitle(title);
         book.setAuthor(author);
         book.setCategory(category);
+        touch(book);
+        if (autocompleteIndex != null) autocompleteIndex.updateBook(book);
         saveData();
         return true;
     }
 
     public boolean deleteBook(int id) {
-        boolean removed = books.remove(id) != null;
-        if (removed) saveData();
+        boolean removed = lazy ? bookStore.remove(id) : books.remove(id) != null;
+        if (removed) {
+            if (autocompleteIndex != null) autocompleteIndex.removeBook(id);
+            saveData();
+        }
         return removed;
     }
 
     public Book getBook(int id) {
-        return books.get(id);
+        return findBook(id);
     }
 
     public List<Book> getAllBooks() {
-        return new ArrayList<>(books.values());
+        return lazy ? bookStore.getAll() : new ArrayList<>(books.values());
     }
 
     public List<Book> getBooksByCategory(String category) {
         List<Book> result = new ArrayList<>();
-        for (Book book : books.values()) {
+        for (Book book : getAllBooks()) {
             if (book.getCategory().equalsIgnoreCase(category)) {
                 result.add(book);
             }
@@ -180,7 +900,7 @@ class Library {
     public List<Book> searchBooks(String keyword) {
         List<Book> result = new ArrayList<>();
         String lowerKeyword = keyword.toLowerCase();
-        for (Book book : books.values()) {
+        for (Book book : getAllBooks()) {
             if (book.getTitle().toLowerCase().contains(lowerKeyword) ||
                 book.getAuthor().toLowerCase().contains(lowerKeyword) ||
                 book.getCategory().toLowerCase().contains(lowerKeyword)) {
@@ -190,97 +910,126 @@ class Library {
         return result;
     }
 
+    // Prefix suggestions over titles and authors, most borrowed first
+    public List<Book> autocomplete(String prefix, int limit) {
+        // The index keeps only IDs and titles, so resolve the books here
+        List<Book> result = new ArrayList<>();
+        for (int bookId : autocompleteIndex().suggest(prefix, limit)) {
+            Book book = findBook(bookId);
+            if (book != null) result.add(book);
+        }
+        return result;
+    }
+
+    public int getBorrowCount(int bookId) {
+        return autocompleteIndex().getBorrowCount(bookId);
+    }
+
+    // Lazy mode builds the autocomplete index on first use, since it needs every title
+    private AutocompleteIndex autocompleteIndex() {
+        if (autocompleteIndex == null) {
+            if (transactionLog != null) {
+                try {
+                    transactionLog.flush();
+                } catch (IOException e) {
+                    System.err.println("Error logging transaction: " + e.getMessage());
+                }
+            }
+            autocompleteIndex = new AutocompleteIndex();
+            autocompleteIndex.build(getAllBooks(), loadBorrowCounts());
+        }
+        return autocompleteIndex;
+    }
+
     // Member management
     public Member addMember(String name, String email) {
         Member member = new Member(nextMemberId++, name, email);
-        members.put(member.getId(), member);
+        if (lazy) memberStore.put(member);
+        else members.put(member.getId(), member);
         saveData();
         return member;
     }
 
     public boolean updateMember(int id, String name, String email) {
-        Member member = members.get(id);
+        Member member = findMember(id);
         if (member == null) return false;
         // For simplicity, update name and email
         member = new Member(id, name, email);
-        members.put(id, member);
+        if (lazy) memberStore.put(member);
+        else members.put(id, member);
         saveData();
         return true;
     }
 
     public boolean deleteMember(int id) {
-        boolean removed = members.remove(id) != null;
+        boolean removed = lazy ? memberStore.remove(id) : members.remove(id) != null;
         if (removed) saveData();
         return removed;
     }
 
     public Member getMember(int id) {
-        return members.get(id);
+        return findMember(id);
     }
 
     public List<Member> getAllMembers() {
-        return new ArrayList<>(members.values());
+        return lazy ? memberStore.getAll() : new ArrayList<>(members.values());
     }
 
     // Issue and return books
     public boolean issueBook(int memberId, int bookId) {
-        Member member = members.get(memberId);
-        Book book = books.get(bookId);
+        Member member = findMember(memberId);
+        Book book = findBook(bookId);
         if (member == null || book == null || book.isIssued()) {
             return false;
         }
         book.setIssued(true);
         member.issueBook(book);
+        touch(book);
+        touch(member);
+        if (autocompleteIndex != null) autocompleteIndex.recordBorrow(bookId);
         saveData();
         // Log the issue event with timestamp, user name, user ID, book ID
-        String timestamp = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new java.util.Date());
-        String logEntry = String.format("%s|ISSUE|%d|%s|%d%n", timestamp, member.getId(), member.getName(), book.getId());
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(LibraryManagementSystem.TRANSACTIONS_FILE, true))) {
-            writer.write(logEntry);
-        } catch (IOException e) {
-            System.out.println("Error logging transaction: " + e.getMessage());
-        }
+        String timestamp = timestampFormat.format(new java.util.Date());
+        logTransaction(String.format("%s|ISSUE|%d|%s|%d%n", timestamp, member.getId(), member.getName(), book.getId()));
         return true;
     }
 
     public boolean returnBook(int memberId, int bookId) {
-        Member member = members.get(memberId);
-        Book book = books.get(bookId);
+        Member member = findMember(memberId);
+        Book book = findBook(bookId);
         if (member == null || book == null || !book.isIssued()) {
             return false;
         }
         book.setIssued(false);
         member.returnBook(book);
+        touch(book);
+        touch(member);
         saveData();
         // Log the return event with timestamp, user name, user ID, book ID
-        String timestamp = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new java.util.Date());
-        String logEntry = String.format("%s|RETURN|%d|%s|%d%n", timestamp, member.getId(), member.getName(), book.getId());
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(LibraryManagementSystem.TRANSACTIONS_FILE, true))) {
-            writer.write(logEntry);
-        } catch (IOException e) {
-            System.out.println("Error logging transaction: " + e.getMessage());
-        }
+        String timestamp = timestampFormat.format(new java.util.Date());
+        logTransaction(String.format("%s|RETURN|%d|%s|%d%n", timestamp, member.getId(), member.getName(), book.getId()));
         return true;
     }
 
     // Fine generation (simple fixed fine for demonstration)
-    public void generateFine(int memberId, double amount) {
-        Member member = members.get(memberId);
-        if (member != null) {
-            member.addFine(amount);
-            saveData();
-        }
+    public boolean generateFine(int memberId, double amount) {
+        Member member = findMember(memberId);
+        if (member == null) return false;
+        member.addFine(amount);
+        touch(member);
+        saveData();
+        return true;
     }
 
     // Report generation (simple print)
     public void generateReport() {
         System.out.println("Library Report:");
         System.out.println("Books:");
-        for (Book book : books.values()) {
+        for (Book book : getAllBooks()) {
             System.out.println(book);
         }
         System.out.println("Members:");
-        for (Member member : members.values()) {
+        for (Member member : getAllMembers()) {
             System.out.println(member);
         }
     }
@@ -294,7 +1043,7 @@ class Library {
                 System.out.println(line);
             }
         } catch (IOException e) {
-            System.out.println("Error reading books.txt: " + e.getMessage());
+            System.err.println("Error reading books.txt: " + e.getMessage());
         }
 
         System.out.println("\nStored Members Data (members.txt):");
@@ -304,36 +1053,170 @@ class Library {
                 System.out.println(line);
             }
         } catch (IOException e) {
-            System.out.println("Error reading members.txt: " + e.getMessage());
+            System.err.println("Error reading members.txt: " + e.getMessage());
+        }
+    }
+
+    // Batch mode: defer saves and keep the transaction log open until endBatch()
+    public void beginBatch() throws IOException {
+        if (batchMode) return;
+        transactionLog = new BufferedWriter(new FileWriter(LibraryManagementSystem.TRANSACTIONS_FILE, true), 1 << 16);
+        batchMode = true;
+        dirty = false;
+        transactionLogError = null;
+    }
+
+    // Writes the deferred data and closes the log; unlike saveData(), failures are thrown
+    // so a batch run can report them
+    public void endBatch() throws IOException {
+        if (!batchMode) return;
+        batchMode = false;
+        IOException failure = transactionLogError;
+        transactionLogError = null;
+        try {
+            if (dirty) writeData();
+            dirty = false;
+        } finally {
+            try {
+                transactionLog.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+            }
+            transactionLog = null;
+        }
+        if (failure != null) throw failure;
+    }
+
+    private void logTransaction(String logEntry) {
+        if (batchMode) {
+            try {
+                transactionLog.write(logEntry);
+            } catch (IOException e) {
+                // Reported once by endBatch()
+                if (transactionLogError == null) transactionLogError = e;
+            }
+            return;
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(LibraryManagementSystem.TRANSACTIONS_FILE, true))) {
+            writer.write(logEntry);
+        } catch (IOException e) {
+            System.err.println("Error logging transaction: " + e.getMessage());
         }
     }
 
     // Save data to text files
     private void saveData() {
+        if (batchMode) {
+            dirty = true;
+            return;
+        }
+        try {
+            writeData();
+        } catch (IOException e) {
+            System.err.println("Error saving data: " + e.getMessage());
+        }
+    }
+
+    private void writeData() throws IOException {
+        if (lazy) {
+            bookStore.save();
+            memberStore.save();
+            return;
+        }
         try (BufferedWriter bookWriter = new BufferedWriter(new FileWriter(BOOKS_FILE));
              BufferedWriter memberWriter = new BufferedWriter(new FileWriter(MEMBERS_FILE))) {
             for (Book book : books.values()) {
-                // Format: id|title|author|category|isIssued
-                bookWriter.write(String.format("%d|%s|%s|%s|%b%n",
-                        book.getId(), escape(book.getTitle()), escape(book.getAuthor()),
-                        escape(book.getCategory()), book.isIssued()));
+                bookWriter.write(formatBook(book));
+                bookWriter.newLine();
             }
             for (Member member : members.values()) {
-                // Format: id|name|email|fine|issuedBookIds(comma separated)
-                StringBuilder issuedBookIds = new StringBuilder();
-                for (Book b : member.getIssuedBooks()) {
-                    if (issuedBookIds.length() > 0) issuedBookIds.append(",");
-                    issuedBookIds.append(b.getId());
-                }
-                memberWriter.write(String.format("%d|%s|%s|%.2f|%s%n",
-                        member.getId(), escape(member.getName()), escape(member.getEmail()),
-                        member.getFine(), issuedBookIds.toString()));
+                memberWriter.write(formatMember(member));
+                memberWriter.newLine();
             }
-        } catch (IOException e) {
-            System.out.println("Error saving data: " + e.getMessage());
         }
     }
 
+    private Book findBook(int id) {
+        return lazy ? bookStore.get(id) : books.get(id);
+    }
+
+    private Member findMember(int id) {
+        return lazy ? memberStore.get(id) : members.get(id);
+    }
+
+    // Lazy mode: keep a modified record in memory until it is saved
+    private void touch(Book book) {
+        if (lazy) bookStore.put(book);
+    }
+
+    private void touch(Member member) {
+        if (lazy) memberStore.put(member);
+    }
+
+    private String formatBook(Book book) {
+        // Format: id|title|author|category|isIssued
+        return String.format("%d|%s|%s|%s|%b",
+                book.getId(), escape(book.getTitle()), escape(book.getAuthor()),
+                escape(book.getCategory()), book.isIssued());
+    }
+
+    private String formatMember(Member member) {
+        // Format: id|name|email|fine|issuedBookIds(comma separated)
+        StringBuilder issuedBookIds = new StringBuilder();
+        for (int bookId : member.getIssuedBookIds()) {
+            if (issuedBookIds.length() > 0) issuedBookIds.append(",");
+            issuedBookIds.append(bookId);
+        }
+        return String.format("%d|%s|%s|%.2f|%s",
+                member.getId(), escape(member.getName()), escape(member.getEmail()),
+                member.getFine(), issuedBookIds.toString());
+    }
+
+    private Book parseBook(String line) {
+        String[] parts = splitRecord(line);
+        if (parts.length < 5) return null;
+        int id = Integer.parseInt(parts[0]);
+        String title = unescape(parts[1]);
+        String author = unescape(parts[2]);
+        String category = unescape(parts[3]);
+        boolean isIssued = Boolean.parseBoolean(parts[4]);
+        Book book = new Book(id, title, author, category);
+        book.setIssued(isIssued);
+        return book;
+    }
+
+    // Lazy mode keeps only the IDs of indexed books and loads them on first use
+    private Member parseMember(String line) {
+        String[] parts = splitRecord(line);
+        if (parts.length < 5) return null;
+        int id = Integer.parseInt(parts[0]);
+        String name = unescape(parts[1]);
+        String email = unescape(parts[2]);
+        double fine = Double.parseDouble(parts[3]);
+        String issuedBooksStr = parts[4];
+        Member member = new Member(id, name, email);
+        member.addFine(fine);
+        if (!issuedBooksStr.isEmpty()) {
+            List<Integer> loanIds = new ArrayList<>();
+            String[] issuedBookIds = issuedBooksStr.split(",");
+            for (String bookIdStr : issuedBookIds) {
+                try {
+                    int bookId = Integer.parseInt(bookIdStr);
+                    if (lazy) {
+                        if (bookStore.contains(bookId)) loanIds.add(bookId);
+                        continue;
+                    }
+                    Book book = findBook(bookId);
+                    if (book != null) {
+                        member.issueBook(book);
+                    }
+                } catch (NumberFormatException ignored) {}
+            }
+            if (lazy && !loanIds.isEmpty()) member.setUnresolvedLoans(loanIds, this::findBook);
+        }
+        return member;
+    }
+
     // Load data from text files
     private void loadData() {
         books.clear();
@@ -344,67 +1227,81 @@ class Library {
         try (BufferedReader bookReader = new BufferedReader(new FileReader(BOOKS_FILE))) {
             String line;
             while ((line = bookReader.readLine()) != null) {
-                String[] parts = line.split("\\|", -1);
-                if (parts.length >= 5) {
-                    int id = Integer.parseInt(parts[0]);
-                    String title = unescape(parts[1]);
-                    String author = unescape(parts[2]);
-                    String category = unescape(parts[3]);
-                    boolean isIssued = Boolean.parseBoolean(parts[4]);
-                    Book book = new Book(id, title, author, category);
-                    book.setIssued(isIssued);
-                    books.put(id, book);
-                    if (id >= nextBookId) nextBookId = id + 1;
+                Book book = parseBook(line);
+                if (book != null) {
+                    books.put(book.getId(), book);
+                    if (book.getId() >= nextBookId) nextBookId = book.getId() + 1;
                 }
             }
         } catch (FileNotFoundException e) {
             // File not found, start fresh
         } catch (IOException e) {
-            System.out.println("Error loading books: " + e.getMessage());
+            System.err.println("Error loading books: " + e.getMessage());
         }
         // Load members
         try (BufferedReader memberReader = new BufferedReader(new FileReader(MEMBERS_FILE))) {
             String line;
             while ((line = memberReader.readLine()) != null) {
-                String[] parts = line.split("\\|", -1);
-                if (parts.length >= 5) {
-                    int id = Integer.parseInt(parts[0]);
-                    String name = unescape(parts[1]);
-                    String email = unescape(parts[2]);
-                    double fine = Double.parseDouble(parts[3]);
-                    String issuedBooksStr = parts[4];
-                    Member member = new Member(id, name, email);
-                    member.addFine(fine);
-                    if (!issuedBooksStr.isEmpty()) {
-                        String[] issuedBookIds = issuedBooksStr.split(",");
-                        for (String bookIdStr : issuedBookIds) {
-                            try {
-                                int bookId = Integer.parseInt(bookIdStr);
-                                Book book = books.get(bookId);
-                                if (book != null) {
-                                    member.issueBook(book);
-                                }
-                            } catch (NumberFormatException ignored) {}
-                        }
-                    }
-                    members.put(id, member);
-                    if (id >= nextMemberId) nextMemberId = id + 1;
+                Member member = parseMember(line);
+                if (member != null) {
+                    members.put(member.getId(), member);
+                    if (member.getId() >= nextMemberId) nextMemberId = member.getId() + 1;
                 }
             }
         } catch (FileNotFoundException e) {
             // File not found, start fresh
         } catch (IOException e) {
-            System.out.println("Error loading members: " + e.getMessage());
+            System.err.println("Error loading members: " + e.getMessage());
         }
     }
 
+    // Count ISSUE events per book ID from the transaction log
+    private Map<Integer, Integer> loadBorrowCounts() {
+        Map<Integer, Integer> counts = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(LibraryManagementSystem.TRANSACTIONS_FILE))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Format: timestamp|ISSUE|memberId|memberName|bookId
+                String[] parts = line.split("\\|", -1);
+                if (parts.length >= 5 && parts[1].trim().equals("ISSUE")) {
+                    try {
+                        int bookId = Integer.parseInt(parts[parts.length - 1].trim());
+                        counts.merge(bookId, 1, Integer::sum);
+                    } catch (NumberFormatException ignored) {}
+                }
+            }
+        } catch (FileNotFoundException e) {
+            // No transactions yet
+        } catch (IOException e) {
+            System.err.println("Error loading transactions: " + e.getMessage());
+        }
+        return counts;
+    }
+
     // Escape pipe and newline characters in strings
     private String escape(String input) {
         return input.replace("\\", "\\\\").replace("|", "\\|").replace("\n", "\\n").replace("\r", "");
     }
 
+    // Split a record on unescaped '|', leaving each field still escaped
+    static String[] splitRecord(String line) {
+        List<String> fields = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '|') {
+                fields.add(line.substring(start, i));
+                start = i + 1;
+            }
+        }
+        fields.add(line.substring(start));
+        return fields.toArray(new String[0]);
+    }
+
     // Unescape pipe and newline characters in strings
-    private String unescape(String input) {
+    static String unescape(String input) {
         StringBuilder sb = new StringBuilder();
         boolean escape = false;
         for (int i = 0; i < input.length(); i++) {
@@ -422,11 +1319,186 @@ class Library {
     }
 }
 
+class BatchRunner {
+    private final Library library;
+    private final BufferedWriter out;
+    private final Map<String, long[]> counts = new TreeMap<>();
+    private long invalid;
+
+    public BatchRunner(Library library, BufferedWriter out) {
+        this.library = library;
+        this.out = out;
+    }
+
+    // Runs one command per line; blank lines and lines starting with # are skipped
+    public void run(BufferedReader in) throws IOException {
+        long start = System.nanoTime();
+        library.beginBatch();
+        try {
+            String line;
+            long lineNo = 0;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                if (line.isEmpty() || line.charAt(0) == '#') continue;
+                // Same field and escape rules as the data files
+                String[] parts = Library.splitRecord(line);
+                for (int i = 0; i < parts.length; i++) {
+                    parts[i] = Library.unescape(parts[i]);
+                }
+                String command = parts[0].trim().toUpperCase();
+                Boolean ok;
+                try {
+                    ok = execute(command, parts);
+                } catch (NumberFormatException e) {
+                    ok = null;
+                }
+                if (ok == null) {
+                    invalid++;
+                    out.write("Line " + lineNo + ": invalid command: " + line);
+                    out.newLine();
+                } else {
+                    long[] c = counts.computeIfAbsent(command, k -> new long[2]);
+                    c[ok ? 0 : 1]++;
+                }
+            }
+        } finally {
+            // Persist and report whatever ran, even if the batch stopped early
+            IOException saveFailure = null;
+            try {
+                library.endBatch();
+            } catch (IOException e) {
+                saveFailure = e;
+                throw e;
+            } finally {
+                writeSummary(System.nanoTime() - start, saveFailure);
+                out.flush();
+            }
+        }
+    }
+
+    // Returns success/failure of the operation, or null if the line is malformed
+    // or has the wrong number of fields
+    private Boolean execute(String command, String[] p) throws IOException {
+        switch (command) {
+            case "ADD_BOOK":
+                if (p.length != 4) return null;
+                write("Book added: " + library.addBook(p[1], p[2], p[3]));
+                return true;
+            case "UPDATE_BOOK":
+                if (p.length != 5) return null;
+                return result(library.updateBook(id(p[1]), p[2], p[3], p[4]), "Book updated.", "Book not found.");
+            case "DELETE_BOOK":
+                if (p.length != 2) return null;
+                return result(library.deleteBook(id(p[1])), "Book deleted.", "Book not found.");
+            case "ADD_MEMBER":
+                if (p.length != 3) return null;
+                write("Member added: " + library.addMember(p[1], p[2]));
+                return true;
+            case "UPDATE_MEMBER":
+                if (p.length != 4) return null;
+                return result(library.updateMember(id(p[1]), p[2], p[3]), "Member updated.", "Member not found.");
+            case "DELETE_MEMBER":
+                if (p.length != 2) return null;
+                return result(library.deleteMember(id(p[1])), "Member deleted.", "Member not found.");
+            case "ISSUE":
+                if (p.length != 3) return null;
+                return result(library.issueBook(id(p[1]), id(p[2])), "Book issued.", "Issue failed.");
+            case "RETURN":
+                if (p.length != 3) return null;
+                return result(library.returnBook(id(p[1]), id(p[2])), "Book returned.", "Return failed.");
+            case "FINE":
+                if (p.length != 3) return null;
+                double amount = Double.parseDouble(p[2].trim());
+                if (Double.isNaN(amount) || Double.isInfinite(amount) || amount < 0) return null;
+                return result(library.generateFine(id(p[1]), amount), "Fine added.", "Member not found.");
+            case "LIST_BOOKS":
+                if (p.length != 1) return null;
+                return writeBooks(library.getAllBooks());
+            case "CATEGORY":
+                if (p.length != 2) return null;
+                return writeBooks(library.getBooksByCategory(p[1]));
+            case "SEARCH":
+                if (p.length != 2) return null;
+                return writeBooks(library.searchBooks(p[1]));
+            case "SUGGEST":
+                if (p.length != 2) return null;
+                return writeBooks(library.autocomplete(p[1], 10));
+            case "REPORT":
+                if (p.length != 1) return null;
+                write("Library Report:");
+                write("Books:");
+                for (Book book : library.getAllBooks()) write(book.toString());
+                write("Members:");
+                for (Member member : library.getAllMembers()) write(member.toString());
+                return true;
+            default:
+                return null;
+        }
+    }
+
+    private int id(String value) {
+        return Integer.parseInt(value.trim());
+    }
+
+    private boolean result(boolean success, String onSuccess, String onFailure) throws IOException {
+        write(success ? onSuccess : onFailure);
+        return success;
+    }
+
+    private boolean writeBooks(List<Book> books) throws IOException {
+        if (books.isEmpty()) {
+            write("No books found.");
+            return false;
+        }
+        for (Book book : books) write(book.toString());
+        return true;
+    }
+
+    private void write(String line) throws IOException {
+        out.write(line);
+        out.newLine();
+    }
+
+    private void writeSummary(long elapsedNanos, IOException saveFailure) throws IOException {
+        long total = invalid;
+        write("");
+        write("Batch Summary:");
+        for (Map.Entry<String, long[]> entry : counts.entrySet()) {
+            long[] c = entry.getValue();
+            total += c[0] + c[1];
+            write(String.format("%-14s ok: %d | failed: %d", entry.getKey(), c[0], c[1]));
+        }
+        write(String.format("%-14s %d", "INVALID", invalid));
+        double seconds = elapsedNanos / 1e9;
+        write(String.format("Total: %d commands in %.3f s (%.0f ops/s)",
+                total, seconds, seconds > 0 ? total / seconds : 0.0));
+        if (saveFailure != null) {
+            write("Save failed, changes were not written: " + saveFailure.getMessage());
+        }
+    }
+}
+
 public class LibraryManagementSystem {
-    private static Library library = new Library();
+    private static Library library;
     private static Scanner scanner = new Scanner(System.in);
 
     public static void main(String[] args) {
+        // Options: --lazy to load records on demand,
+        // --batch [commands.txt | -] to run headless
+        boolean lazy = false;
+        String batchSource = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--lazy")) {
+                lazy = true;
+            } else if (args[i].equals("--batch")) {
+                batchSource = i + 1 < args.length && !args[i + 1].startsWith("--") ? args[++i] : "-";
+            }
+        }
+        library = new Library(lazy);
+        if (batchSource != null) {
+            runBatch(batchSource);
+            return;
+        }
         System.out.println("Welcome to the Library Management System");
         while (true) {
             System.out.println("\nSelect mode:");
@@ -451,6 +1523,28 @@ public class LibraryManagementSystem {
         }
     }
 
+    // Exits with status 1 on failure so scheduled jobs can detect it
+    private static void runBatch(String source) {
+        BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+        boolean failed = false;
+        try (BufferedReader in = source.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in), 1 << 16)
+                : new BufferedReader(new FileReader(source), 1 << 16)) {
+            new BatchRunner(library, out).run(in);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error running batch: " + e);
+            failed = true;
+        } finally {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                System.err.println("Error writing batch output: " + e.getMessage());
+                failed = true;
+            }
+        }
+        if (failed) System.exit(1);
+    }
+
     private static void adminMenu() {
         while (true) {
             System.out.println("\nAdmin Menu:");
@@ -503,7 +1597,8 @@ public class LibraryManagementSystem {
             System.out.println("4. Issue Book");
             System.out.println("5. Return Book");
             System.out.println("6. Send Email Query");
-            System.out.println("7. Back to Main Menu");
+            System.out.println("7. Search Suggestions");
+            System.out.println("8. Back to Main Menu");
             System.out.print("Enter choice: ");
             int choice = readInt();
             switch (choice) {
@@ -526,6 +1621,9 @@ public class LibraryManagementSystem {
                     sendEmailQuery();
                     break;
                 case 7:
+                    suggestBooks();
+                    break;
+                case 8:
                     return;
                 default:
                     System.out.println("Invalid choice. Try again.");
@@ -644,6 +1742,19 @@ public class LibraryManagementSystem {
         }
     }
 
+    private static void suggestBooks() {
+        System.out.print("Enter the first few letters of a title or author: ");
+        String prefix = scanner.nextLine();
+        List<Book> books = library.autocomplete(prefix, 10);
+        if (books.isEmpty()) {
+            System.out.println("No suggestions found.");
+        } else {
+            for (Book book : books) {
+                System.out.println(book + " | Borrowed: " + library.getBorrowCount(book.getId()));
+            }
+        }
+    }
+
     private static void issueBook() {
         System.out.print("Enter your member ID: ");
         int memberId = readInt();